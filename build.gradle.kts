@@ -35,6 +35,10 @@ val pluginVersion = project.property("plugin.version").toString()
 
 val loomVersion = project.property("loom.version").toString()
 val mappingIoVersion = project.property("mapping-io.version").toString()
+val junitVersion = project.property("junit.version").toString()
+
+val testTimeMargin = providers.gradleProperty("test.time-margin").orNull
+val testAllocationMargin = project.property("test.allocation-margin").toString()
 
 group = pluginGroup
 version = "$pluginVersion+${System.getenv("GITHUB_RUN_NUMBER") ?: "0"}"
@@ -66,6 +70,11 @@ dependencies {
     implementation(gradleApi())
     compileOnly("net.fabricmc:fabric-loom:${loomVersion}")
     implementation("net.fabricmc:mapping-io:${mappingIoVersion}")
+
+    testImplementation("net.fabricmc:fabric-loom:${loomVersion}")
+    testImplementation(platform("org.junit:junit-bom:${junitVersion}"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<JavaCompile> {
@@ -77,6 +86,27 @@ tasks.withType<Jar> {
     from("LICENSE")
 }
 
+tasks.withType<Test> {
+    useJUnitPlatform()
+
+    systemProperty("mojarn.test.resources", file("src/test/resources").absolutePath)
+    systemProperty("mojarn.test.allocationMargin", testAllocationMargin)
+    // wall time depends on the machine, so it is only checked when a margin is given
+    if (testTimeMargin != null) {
+        systemProperty("mojarn.test.timeMargin", testTimeMargin)
+    }
+}
+
+tasks.register<Test>("updateTestBaselines") {
+    group = "verification"
+    description = "Regenerates the golden mappings and performance baselines used by the tests."
+
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    systemProperty("mojarn.test.update", "true")
+    outputs.upToDateWhen { false }
+}
+
 tasks.javadoc {
     options.encoding = "UTF-8"
 }
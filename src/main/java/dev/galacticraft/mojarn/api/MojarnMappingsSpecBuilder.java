@@ -23,6 +23,9 @@
 package dev.galacticraft.mojarn.api;
 
 import net.fabricmc.loom.api.mappings.layered.spec.FileMappingsSpecBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
 
 /**
  * A builder for a Mojarn mappings spec.
@@ -72,13 +75,41 @@ public interface MojarnMappingsSpecBuilder {
      */
     MojarnMappingsSpecBuilder copyComments(boolean copyComments);
 
+    /**
+     * Whether to name arguments that have no file mapping after the most common name for their type.
+     * Only applies to class-typed arguments of constructors and of methods whose file mappings show whether they are static.
+     * Mappings do not record whether a method is static, so this is only known if the file mappings name the first
+     * argument of a static method or the last argument of an instance method.
+     * Methods that the file mappings name no arguments of (other than constructors) are never covered.
+     * @param inferArguments whether to infer argument names from their types
+     * @return this builder
+     */
+    MojarnMappingsSpecBuilder inferArguments(boolean inferArguments);
+
     /**
      * Whether to disable mojarn when in a CI environment.
+     * A snapshot of the generated mappings is used instead, if one is available (see {@link #snapshotDirectory(File)}).
      * @param skipCI whether to disable mojarn when in a CI environment
      * @return this builder
      */
     MojarnMappingsSpecBuilder skipCI(boolean skipCI);
 
+    /**
+     * The directory to store snapshots of the generated mappings in, disabled by default.
+     * Builds that generate the mappings write a snapshot, which CI builds that skip mojarn use instead if present.
+     * CI builds never generate the mappings themselves, so the directory must be filled by a non-CI build (or one with
+     * {@link #skipCI(boolean) skipCI} disabled) and then checked in or cached for CI.
+     * Snapshots are keyed by a digest of the input mappings and options, so outdated snapshots are never used, and are
+     * deleted when a new snapshot of the same options is written.
+     * <p>Loom caches the layered mappings, so a build only writes a snapshot when the mappings are regenerated, and a CI
+     * build that found no snapshot keeps the plain Mojang mappings until that cache is cleared, e.g. with
+     * {@code --refresh-dependencies}.
+     * @param snapshotDirectory the snapshot directory, or {@code null} to disable snapshots
+     * @return this builder
+     * @see #skipCI(boolean)
+     */
+    MojarnMappingsSpecBuilder snapshotDirectory(@Nullable File snapshotDirectory);
+
     /**
      * Whether the mapping file is an Enigma mappings file (forwarded to file mapping builder).
      * @return this builder
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024-2025 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.mojarn.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Counts how often each argument name is used for each argument type, to guess names for arguments without one.
+ * Types and names are interned to integer ids, and the {@code (type, name)} pair counts are kept in a primitive
+ * open-addressing table so that the index adds little overhead to the pass over all arguments.
+ */
+final class ArgumentNameIndex {
+    private static final long EMPTY = -1L;
+    /**
+     * The minimum number of arguments of a type before a name is inferred for it.
+     */
+    private static final int MIN_OCCURRENCES = 2;
+
+    private final HashMap<String, Integer> typeIds = new HashMap<>(1024);
+    private final HashMap<String, Integer> nameIds = new HashMap<>(1024);
+    private final List<String> names = new ArrayList<>(1024);
+
+    private long[] keys = new long[4096];
+    private int[] counts = new int[4096];
+    private int size = 0;
+
+    private int[] totals = new int[1024];
+    private int[] dominant = null;
+
+    ArgumentNameIndex() {
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    /**
+     * Records a use of the given argument name for the given type.
+     * Numeric suffixes are stripped from the name, as they are re-added when names are deduplicated.
+     * @param type the (yarn) type descriptor of the argument, without the {@code L} and {@code ;}
+     * @param name the name of the argument
+     */
+    void add(@NotNull String type, @NotNull String name) {
+        int end = name.length();
+        while (end > 1 && Character.isDigit(name.charAt(end - 1))) {
+            end--;
+        }
+        name = name.substring(0, end);
+
+        int typeId = intern(this.typeIds, type);
+        int nameId = intern(this.nameIds, name);
+        if (nameId == this.names.size()) {
+            this.names.add(name);
+        }
+
+        if (typeId == this.totals.length) {
+            this.totals = Arrays.copyOf(this.totals, this.totals.length * 2);
+        }
+        this.totals[typeId]++;
+
+        long key = ((long) typeId << 32) | nameId;
+        int slot = find(this.keys, key);
+        if (this.keys[slot] == EMPTY) {
+            this.keys[slot] = key;
+            if (++this.size * 2 > this.keys.length) {
+                rehash();
+                slot = find(this.keys, key);
+            }
+        }
+        this.counts[slot]++;
+        this.dominant = null;
+    }
+
+    /**
+     * Returns the dominant name for the given type.
+     * A name is dominant if it is used by more than half of the recorded arguments of that type.
+     * @param type the (yarn) type descriptor of the argument, without the {@code L} and {@code ;}
+     * @return the dominant name, or {@code null} if there is none
+     */
+    @Nullable String get(@NotNull String type) {
+        Integer typeId = this.typeIds.get(type);
+        if (typeId == null) return null;
+
+        if (this.dominant == null) {
+            this.dominant = resolve();
+        }
+        int nameId = this.dominant[typeId];
+        return nameId < 0 ? null : this.names.get(nameId);
+    }
+
+    private int[] resolve() {
+        int types = this.typeIds.size();
+        int[] best = new int[types];
+        int[] bestCount = new int[types];
+        Arrays.fill(best, -1);
+
+        for (int i = 0; i < this.keys.length; i++) {
+            long key = this.keys[i];
+            if (key != EMPTY) {
+                int typeId = (int) (key >>> 32);
+                if (this.counts[i] > bestCount[typeId]) {
+                    bestCount[typeId] = this.counts[i];
+                    best[typeId] = (int) key;
+                }
+            }
+        }
+
+        for (int i = 0; i < types; i++) {
+            int total = this.totals[i];
+            if (total < MIN_OCCURRENCES || bestCount[i] * 2 <= total) {
+                best[i] = -1;
+            }
+        }
+        return best;
+    }
+
+    private void rehash() {
+        long[] oldKeys = this.keys;
+        int[] oldCounts = this.counts;
+        this.keys = new long[oldKeys.length * 2];
+        this.counts = new int[oldCounts.length * 2];
+        Arrays.fill(this.keys, EMPTY);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(this.keys, oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of the given key, or the empty slot it should be inserted into.
+     * @param keys the (power of two sized) key table
+     * @param key the key to find
+     * @return the index of the slot
+     */
+    private static int find(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int intern(HashMap<String, Integer> ids, String value) {
+        Integer id = ids.putIfAbsent(value, ids.size());
+        return id == null ? ids.size() - 1 : id;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2024-2025 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.mojarn.impl;
+
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingFlag;
+import net.fabricmc.mappingio.MappingVisitor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes a SHA-256 digest of the visited mappings, optionally forwarding them to another visitor.
+ * Used to key mapping layer snapshots on the content of the input mappings.
+ */
+final class DigestingMappingVisitor implements MappingVisitor {
+    private final @Nullable MappingVisitor next;
+    private final MessageDigest digest = sha256();
+    // values are buffered, as digesting many small updates is slow
+    private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+    /**
+     * @param next the visitor to forward the mappings to, or {@code null} to only digest them
+     */
+    DigestingMappingVisitor(@Nullable MappingVisitor next) {
+        this.next = next;
+    }
+
+    /**
+     * Completes the digest. The visitor must not be used afterwards.
+     * @return the digest of all visited mappings
+     */
+    byte[] digest() {
+        this.flush();
+        return this.digest.digest();
+    }
+
+    static @NotNull MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public Set<MappingFlag> getFlags() {
+        return this.next != null ? this.next.getFlags() : MappingVisitor.super.getFlags();
+    }
+
+    @Override
+    public void reset() {
+        if (this.next != null) this.next.reset();
+    }
+
+    @Override
+    public boolean visitHeader() throws IOException {
+        return this.next == null || this.next.visitHeader();
+    }
+
+    @Override
+    public void visitNamespaces(String srcNamespace, List<String> dstNamespaces) throws IOException {
+        this.update('N', srcNamespace);
+        for (String namespace : dstNamespaces) {
+            this.update(namespace);
+        }
+        if (this.next != null) this.next.visitNamespaces(srcNamespace, dstNamespaces);
+    }
+
+    @Override
+    public void visitMetadata(String key, @Nullable String value) throws IOException {
+        this.update('M', key);
+        this.update(value);
+        if (this.next != null) this.next.visitMetadata(key, value);
+    }
+
+    @Override
+    public boolean visitContent() throws IOException {
+        return this.next == null || this.next.visitContent();
+    }
+
+    @Override
+    public boolean visitClass(String srcName) throws IOException {
+        this.update('c', srcName);
+        return this.next == null || this.next.visitClass(srcName);
+    }
+
+    @Override
+    public boolean visitField(String srcName, @Nullable String srcDesc) throws IOException {
+        this.update('f', srcName);
+        this.update(srcDesc);
+        return this.next == null || this.next.visitField(srcName, srcDesc);
+    }
+
+    @Override
+    public boolean visitMethod(String srcName, @Nullable String srcDesc) throws IOException {
+        this.update('m', srcName);
+        this.update(srcDesc);
+        return this.next == null || this.next.visitMethod(srcName, srcDesc);
+    }
+
+    @Override
+    public boolean visitMethodArg(int argPosition, int lvIndex, @Nullable String srcName) throws IOException {
+        this.update('p', argPosition, lvIndex);
+        this.update(srcName);
+        return this.next == null || this.next.visitMethodArg(argPosition, lvIndex, srcName);
+    }
+
+    @Override
+    public boolean visitMethodVar(int lvtRowIndex, int lvIndex, int startOpIdx, int endOpIdx, @Nullable String srcName) throws IOException {
+        this.update('v', lvtRowIndex, lvIndex);
+        this.update(startOpIdx);
+        this.update(endOpIdx);
+        this.update(srcName);
+        return this.next == null || this.next.visitMethodVar(lvtRowIndex, lvIndex, startOpIdx, endOpIdx, srcName);
+    }
+
+    @Override
+    public boolean visitEnd() throws IOException {
+        return this.next == null || this.next.visitEnd();
+    }
+
+    @Override
+    public void visitDstName(MappedElementKind targetKind, int namespace, String name) throws IOException {
+        this.update('n', targetKind.ordinal(), namespace);
+        this.update(name);
+        if (this.next != null) this.next.visitDstName(targetKind, namespace, name);
+    }
+
+    @Override
+    public void visitDstDesc(MappedElementKind targetKind, int namespace, String desc) throws IOException {
+        this.update('d', targetKind.ordinal(), namespace);
+        this.update(desc);
+        if (this.next != null) this.next.visitDstDesc(targetKind, namespace, desc);
+    }
+
+    @Override
+    public boolean visitElementContent(MappedElementKind targetKind) throws IOException {
+        return this.next == null || this.next.visitElementContent(targetKind);
+    }
+
+    @Override
+    public void visitComment(MappedElementKind targetKind, String comment) throws IOException {
+        this.update('j', targetKind.ordinal());
+        this.update(comment);
+        if (this.next != null) this.next.visitComment(targetKind, comment);
+    }
+
+    private void update(char tag, String value) {
+        this.ensure(1);
+        this.buffer.put((byte) tag);
+        this.update(value);
+    }
+
+    private void update(char tag, int value) {
+        this.ensure(1);
+        this.buffer.put((byte) tag);
+        this.update(value);
+    }
+
+    private void update(char tag, int first, int second) {
+        this.update(tag, first);
+        this.update(second);
+    }
+
+    private void update(int value) {
+        this.ensure(Integer.BYTES);
+        this.buffer.putInt(value);
+    }
+
+    /**
+     * Digests the value, length-prefixed so that adjacent values cannot run into each other.
+     * The chars are digested as they are, as encoding them would allocate for every value.
+     */
+    private void update(@Nullable String value) {
+        if (value == null) {
+            this.update(-1);
+            return;
+        }
+        int length = value.length();
+        this.update(length);
+        for (int i = 0; i < length; ) {
+            this.ensure(Character.BYTES);
+            int end = Math.min(length, i + this.buffer.remaining() / Character.BYTES);
+            for (; i < end; i++) {
+                this.buffer.putChar(value.charAt(i));
+            }
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (this.buffer.remaining() < bytes) {
+            this.flush();
+        }
+    }
+
+    private void flush() {
+        this.digest.update(this.buffer.array(), 0, this.buffer.position());
+        this.buffer.clear();
+    }
+}
@@ -26,7 +26,6 @@ import dev.galacticraft.mojarn.api.MojarnExtension;
 import dev.galacticraft.mojarn.api.MojarnMappingsSpecBuilder;
 import net.fabricmc.loom.api.LoomGradleExtensionAPI;
 import net.fabricmc.loom.api.mappings.layered.spec.FileSpec;
-import net.fabricmc.loom.configuration.providers.mappings.file.FileMappingsSpecBuilderImpl;
 import org.gradle.api.Action;
 import org.gradle.api.artifacts.Dependency;
 
@@ -46,9 +45,7 @@ public class MojarnExtensionImpl implements MojarnExtension {
     public Dependency mappings(Object file, Action<? super MojarnMappingsSpecBuilder> action) {
         MojarnMappingsSpecBuilderImpl builder = new MojarnMappingsSpecBuilderImpl();
         action.execute(builder);
-        FileMappingsSpecBuilderImpl fileBuilder = FileMappingsSpecBuilderImpl.builder(FileSpec.create(file));
-        if (builder.fileIsEnigma) fileBuilder.enigmaMappings();
 
-        return loom.layered(b -> b.addLayer(builder.build(fileBuilder.build())));
+        return loom.layered(b -> b.addLayer(builder.build(FileSpec.create(file))));
     }
 }
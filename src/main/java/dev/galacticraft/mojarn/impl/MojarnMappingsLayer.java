@@ -26,7 +26,10 @@ import net.fabricmc.loom.api.mappings.layered.MappingLayer;
 import net.fabricmc.loom.api.mappings.layered.MappingsNamespace;
 import net.fabricmc.loom.configuration.providers.mappings.intermediary.IntermediaryMappingLayer;
 import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingReader;
 import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.format.tiny.Tiny2FileWriter;
 import net.fabricmc.mappingio.tree.MappingTree;
 import net.fabricmc.mappingio.tree.MappingTreeView;
 import net.fabricmc.mappingio.tree.MemoryMappingTree;
@@ -34,12 +37,19 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class MojarnMappingsLayer implements MappingLayer {
     // https://stackoverflow.com/a/7594052
     private static final Pattern PATTERN = Pattern.compile("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
+    private static final String SNAPSHOT_EXTENSION = ".tiny.gz";
 
     private final @NotNull MappingLayer intermediary;
     private final @NotNull MappingLayer mojang;
@@ -49,10 +59,18 @@ public class MojarnMappingsLayer implements MappingLayer {
     private final boolean skipDifferent;
     private final boolean mapVariables;
     private final boolean copyComments;
+    private final boolean inferArguments;
     private final boolean skipCI;
+    private final @Nullable File snapshots;
+    private final boolean ci;
     private int skipped = 0;
+    private int inferred = 0;
 
-    public MojarnMappingsLayer(@NotNull MappingLayer intermediary, @NotNull MappingLayer mojang, @NotNull MappingLayer yarn, boolean remapArguments, boolean partialMatch, boolean skipDifferent, boolean mapVariables, boolean copyComments, boolean skipCI) {
+    public MojarnMappingsLayer(@NotNull MappingLayer intermediary, @NotNull MappingLayer mojang, @NotNull MappingLayer yarn, boolean remapArguments, boolean partialMatch, boolean skipDifferent, boolean mapVariables, boolean copyComments, boolean inferArguments, boolean skipCI, @Nullable File snapshots) {
+        this(intermediary, mojang, yarn, remapArguments, partialMatch, skipDifferent, mapVariables, copyComments, inferArguments, skipCI, snapshots, MojarnPlugin.isCI);
+    }
+
+    MojarnMappingsLayer(@NotNull MappingLayer intermediary, @NotNull MappingLayer mojang, @NotNull MappingLayer yarn, boolean remapArguments, boolean partialMatch, boolean skipDifferent, boolean mapVariables, boolean copyComments, boolean inferArguments, boolean skipCI, @Nullable File snapshots, boolean ci) {
         this.intermediary = intermediary;
         this.mojang = mojang;
         this.yarn = yarn;
@@ -61,22 +79,57 @@ public class MojarnMappingsLayer implements MappingLayer {
         this.skipDifferent = skipDifferent;
         this.mapVariables = mapVariables;
         this.copyComments = copyComments;
+        this.inferArguments = inferArguments;
         this.skipCI = skipCI;
+        this.snapshots = snapshots;
+        this.ci = ci;
     }
 
     @Override
     public void visit(MappingVisitor mappingVisitor) throws IOException {
         this.skipped = 0;
+        this.inferred = 0;
 
         long start = System.currentTimeMillis();
 
-        this.mojang.visit(mappingVisitor);
+        // digest the official mappings while visiting them, to locate the snapshot (if enabled)
+        DigestingMappingVisitor mojangDigest = this.snapshots != null ? new DigestingMappingVisitor(mappingVisitor) : null;
+        this.mojang.visit(mojangDigest != null ? mojangDigest : mappingVisitor);
+        File snapshot = mojangDigest != null ? this.locateSnapshot(this.snapshots, mojangDigest) : null;
 
-        if (MojarnPlugin.isCI && this.skipCI) {
-            MojarnPlugin.LOGGER.info("Skipping mapping layer generation for CI build.");
+        if (this.ci && this.skipCI) {
+            if (snapshot != null && readSnapshot(snapshot, mappingVisitor)) {
+                MojarnPlugin.LOGGER.info("Loaded mapping layer snapshot for CI build in {}ms", System.currentTimeMillis() - start);
+            } else {
+                MojarnPlugin.LOGGER.info("Skipping mapping layer generation for CI build.");
+            }
             return;
         }
 
+        if (snapshot != null) {
+            // generate into a tree first, so that it can also be written to the snapshot
+            MemoryMappingTree generated = new MemoryMappingTree();
+            this.generate(generated);
+            generated.accept(mappingVisitor);
+            writeSnapshot(snapshot, generated);
+        } else {
+            this.generate(mappingVisitor);
+        }
+
+        long time = System.currentTimeMillis() - start;
+        MojarnPlugin.LOGGER.debug("Failed to map {} method arguments due to LVT mismatch.", this.skipped);
+        if (this.inferArguments) {
+            MojarnPlugin.LOGGER.debug("Inferred {} method argument names from their types.", this.inferred);
+        }
+        MojarnPlugin.LOGGER.info("Mapping layer generation took {}ms", time);
+    }
+
+    /**
+     * Generates the mixed mappings.
+     * @param mappingVisitor the output mapping visitor
+     * @throws IOException if the mapping visitor fails to accept the mappings
+     */
+    private void generate(MappingVisitor mappingVisitor) throws IOException {
         // generate a tree of official mappings
         MemoryMappingTree officialTree = new MemoryMappingTree();
         this.intermediary.visit(officialTree);
@@ -88,6 +141,7 @@ public class MojarnMappingsLayer implements MappingLayer {
 
         // generate a tree of yarn mappings
         MemoryMappingTree yarnTree = new MemoryMappingTree();
+        yarnTree.setIndexByDstNames(true); // argument types are looked up by their named class
         this.yarn.visit(yarnTree);
 
         // yarn mappings namespace
@@ -113,6 +167,10 @@ public class MojarnMappingsLayer implements MappingLayer {
         // cached arraylist for method descriptor parsing
         List<String> descriptor = new ArrayList<>(16);
         HashMap<String, Integer> names = new HashMap<>(16);
+        BitSet mapped = new BitSet(16);
+
+        // learn the most common argument name of each type (if enabled)
+        ArgumentNameIndex index = this.inferArguments ? buildArgumentIndex(yarnTree, named, descriptor) : null;
 
         // visit all official classes
         for (MappingTree.ClassMapping clazz : officialTree.getClasses()) {
@@ -156,6 +214,11 @@ public class MojarnMappingsLayer implements MappingLayer {
                             // visit all method arguments
                             mapArguments(mappingVisitor, yarnMethod, named, descriptor, yarnTree, yarn2official, names);
 
+                            // name the arguments yarn left unnamed by their type (if enabled)
+                            if (index != null) {
+                                inferArguments(mappingVisitor, yarnMethod, named, descriptor, yarnTree, yarn2official, names, index, mapped);
+                            }
+
                             // visit all method variables (if enabled)
                             // no type data, so it is just copied verbatim
                             if (this.mapVariables) {
@@ -166,10 +229,122 @@ public class MojarnMappingsLayer implements MappingLayer {
                 }
             }
         }
+    }
 
-        long time = System.currentTimeMillis() - start;
-        MojarnPlugin.LOGGER.debug("Failed to map {} method arguments due to LVT mismatch.", this.skipped);
-        MojarnPlugin.LOGGER.info("Mapping layer generation took {}ms", time);
+    /**
+     * Locates the snapshot of this layer, keyed by a SHA-256 digest of everything that affects the generated mappings:
+     * the generator code, the enabled options and the content of the input mappings.
+     * Snapshots are named {@code <options>-<digest>.tiny.gz}, so that outdated snapshots of the same options can be found.
+     * @param snapshots the snapshot directory
+     * @param mojangDigest the digest of the official mappings
+     * @return the snapshot file, or {@code null} if the generator code cannot be digested
+     * @throws IOException if the input mappings fail to be read
+     */
+    private @Nullable File locateSnapshot(@NotNull File snapshots, DigestingMappingVisitor mojangDigest) throws IOException {
+        byte[] generator;
+        try {
+            generator = generatorDigest();
+        } catch (IOException e) {
+            // snapshots are only an optimization, so continue without them
+            MojarnPlugin.LOGGER.warn("Disabling mapping layer snapshots, failed to digest the generator classes", e);
+            return null;
+        }
+
+        DigestingMappingVisitor intermediaryDigest = new DigestingMappingVisitor(null);
+        this.intermediary.visit(intermediaryDigest);
+        DigestingMappingVisitor yarnDigest = new DigestingMappingVisitor(null);
+        this.yarn.visit(yarnDigest);
+
+        int options = (this.remapArguments ? 1 : 0) | (this.partialMatch ? 1 << 1 : 0) | (this.skipDifferent ? 1 << 2 : 0)
+                | (this.mapVariables ? 1 << 3 : 0) | (this.copyComments ? 1 << 4 : 0) | (this.inferArguments ? 1 << 5 : 0);
+        MessageDigest key = DigestingMappingVisitor.sha256();
+        key.update(generator);
+        key.update((byte) options);
+        key.update(intermediaryDigest.digest());
+        key.update(mojangDigest.digest());
+        key.update(yarnDigest.digest());
+        return new File(snapshots, HexFormat.of().toHexDigits((byte) options) + '-' + HexFormat.of().formatHex(key.digest()) + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Digests the classes that generate the mappings, so that snapshots from other versions of the plugin are not used.
+     * @return the digest of the generator classes
+     * @throws IOException if the classes fail to be read
+     */
+    private static byte[] generatorDigest() throws IOException {
+        MessageDigest digest = DigestingMappingVisitor.sha256();
+        for (Class<?> clazz : List.of(MojarnMappingsLayer.class, ArgumentNameIndex.class)) {
+            try (InputStream stream = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+                if (stream == null) throw new FileNotFoundException("Missing class file of " + clazz.getName());
+                digest.update(stream.readAllBytes());
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Visits a previously generated snapshot of this layer.
+     * The snapshot is fully parsed before anything is visited, so that a corrupt snapshot falls back cleanly.
+     * @param snapshot the snapshot file
+     * @param output the output mapping visitor
+     * @return whether the snapshot was visited
+     * @throws IOException if the mapping visitor fails to accept the mappings
+     */
+    private static boolean readSnapshot(@NotNull File snapshot, MappingVisitor output) throws IOException {
+        if (!snapshot.isFile()) {
+            MojarnPlugin.LOGGER.info("No mapping layer snapshot found at {}", snapshot);
+            return false;
+        }
+
+        MemoryMappingTree tree = new MemoryMappingTree();
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new FileInputStream(snapshot)), StandardCharsets.UTF_8)) {
+            MappingReader.read(reader, MappingFormat.TINY_2_FILE, tree);
+        } catch (IOException | RuntimeException e) {
+            MojarnPlugin.LOGGER.warn("Ignoring corrupt mapping layer snapshot {}", snapshot, e);
+            return false;
+        }
+
+        tree.accept(output);
+        return true;
+    }
+
+    /**
+     * Writes a snapshot of the generated mappings, for use in CI builds.
+     * Outdated snapshots of the same options are deleted, so that the directory does not grow with every mappings update.
+     * Failures are logged, as the snapshot is only an optimization.
+     * @param snapshot the snapshot file
+     * @param generated the generated mappings
+     */
+    private static void writeSnapshot(@NotNull File snapshot, MemoryMappingTree generated) {
+        try {
+            Files.createDirectories(snapshot.toPath().getParent());
+            // write to a temporary file first, so that a partially written snapshot is never read
+            File temp = File.createTempFile(snapshot.getName(), ".tmp", snapshot.getParentFile());
+            try {
+                try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(temp)), StandardCharsets.UTF_8)) {
+                    generated.accept(new Tiny2FileWriter(writer, false));
+                }
+                Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp.toPath());
+            }
+        } catch (IOException e) {
+            MojarnPlugin.LOGGER.warn("Failed to write mapping layer snapshot {}", snapshot, e);
+            return;
+        }
+
+        String options = snapshot.getName().substring(0, snapshot.getName().indexOf('-') + 1);
+        File[] outdated = snapshot.getParentFile().listFiles((dir, name) -> name.startsWith(options) && name.endsWith(SNAPSHOT_EXTENSION) && !name.equals(snapshot.getName()));
+        if (outdated != null) {
+            for (File file : outdated) {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                    MojarnPlugin.LOGGER.info("Deleted outdated mapping layer snapshot {}", file);
+                } catch (IOException e) {
+                    MojarnPlugin.LOGGER.warn("Failed to delete outdated mapping layer snapshot {}", file, e);
+                }
+            }
+        }
     }
 
     /**
@@ -180,7 +355,18 @@ public class MojarnMappingsLayer implements MappingLayer {
     private static void parseMethodDescriptorLVT(char[] desc, List<String> descriptor) {
         descriptor.clear();
         for (int i = 1; i < desc.length; i++) {
-            if (desc[i] == 'L') {
+            if (desc[i] == '[') {
+                // arrays take a single slot and have no mappings
+                while (desc[i] == '[') {
+                    i++;
+                }
+                if (desc[i] == 'L') {
+                    while (desc[i] != ';') {
+                        i++;
+                    }
+                }
+                descriptor.add(null);
+            } else if (desc[i] == 'L') {
                 // parse class types
                 StringBuilder sb = new StringBuilder();
                 while (desc[++i] != ';') {
@@ -261,6 +447,114 @@ public class MojarnMappingsLayer implements MappingLayer {
         }
     }
 
+    /**
+     * Counts the argument names yarn uses for each argument type.
+     * @param yarnTree the tree of yarn/file mapping names
+     * @param named the integer id of the named namespace in the {@code yarnTree}
+     * @param descriptor cached list for method descriptor parsing
+     * @return the populated index
+     */
+    private static ArgumentNameIndex buildArgumentIndex(MemoryMappingTree yarnTree, int named, List<String> descriptor) {
+        ArgumentNameIndex index = new ArgumentNameIndex();
+        for (MappingTree.ClassMapping clazz : yarnTree.getClasses()) {
+            for (MappingTree.MethodMapping method : clazz.getMethods()) {
+                String dstDesc = method.getDstDesc(named);
+                if (dstDesc == null || method.getArgs().isEmpty()) continue;
+
+                parseMethodDescriptorLVT(dstDesc.toCharArray(), descriptor);
+                int base = getFirstArgumentIndex(method, descriptor.size());
+                if (base < 0) continue;
+
+                for (MappingTree.MethodArgMapping arg : method.getArgs()) {
+                    String argName = arg.getDstName(named);
+                    int slot = arg.getLvIndex() - base;
+                    if (argName != null && slot >= 0 && slot < descriptor.size()) {
+                        String desc = descriptor.get(slot);
+                        if (desc != null) {
+                            index.add(desc, argName);
+                        }
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Names the class-typed arguments of the given method that yarn has not named, using the most common name for their type.
+     * Only applies to methods where the LVT index of the first argument is known, which excludes
+     * methods (other than constructors) that yarn has not mapped any argument of.
+     * @param output the output mapping visitor
+     * @param method the method whose arguments are being named
+     * @param named the integer id of the named namespace in the {@code yarnTree}
+     * @param descriptor the method descriptor ({@code null} represents a primitive)
+     * @param yarnTree the tree of yarn/file mapping names
+     * @param yarn2official map of yarn to official class mapping names
+     * @param names map of already visited names (to avoid duplication)
+     * @param index the argument name index
+     * @param mapped cached set of LVT indices already named by yarn (will be cleared)
+     * @throws IOException if the mapping visitor fails to accept the name(s)
+     */
+    private void inferArguments(MappingVisitor output, MappingTree.MethodMapping method, int named, List<@Nullable String> descriptor, MemoryMappingTree yarnTree, Map<String, String> yarn2official, HashMap<String, Integer> names, ArgumentNameIndex index, BitSet mapped) throws IOException {
+        int base = getFirstArgumentIndex(method, descriptor.size());
+        if (base < 0) return;
+
+        mapped.clear();
+        for (MappingTree.MethodArgMapping arg : method.getArgs()) {
+            if (arg.getDstName(named) != null) {
+                mapped.set(arg.getLvIndex());
+            }
+        }
+
+        for (int i = 0; i < descriptor.size(); i++) {
+            String desc = descriptor.get(i);
+            if (desc == null || mapped.get(base + i)) continue;
+
+            String argName = index.get(desc);
+            if (argName != null && this.remapArguments && yarnTree.getClass(desc, named) != null) {
+                String typeName = getClassName(desc);
+                String remapped = yarn2official.get(typeName);
+                if (remapped != null) {
+                    argName = tryRemap(typeName, argName, remapped);
+                }
+            }
+
+            if (argName != null) {
+                // avoid duplicate names
+                int dup = names.merge(argName, 0, (s, k) -> s + 1);
+
+                output.visitMethodArg(-1, base + i, null);
+                output.visitDstName(MappedElementKind.METHOD_ARG, 0, dup == 0 ? argName : argName + dup);
+                this.inferred++;
+            }
+        }
+    }
+
+    /**
+     * Determines the LVT index of the first argument of the given method.
+     * Mappings carry no access flags, so this is derived from the argument indices yarn has mapped.
+     * @param method the method to check
+     * @param size the number of LVT slots used by the method arguments
+     * @return {@code 0} for static methods, {@code 1} for instance methods, or {@code -1} if it is unknown
+     */
+    private static int getFirstArgumentIndex(MappingTree.MethodMapping method, int size) {
+        if ("<init>".equals(method.getSrcName())) return 1;
+
+        boolean isStatic = false;
+        boolean isInstance = false;
+        for (MappingTree.MethodArgMapping arg : method.getArgs()) {
+            int lvIndex = arg.getLvIndex();
+            if (lvIndex == 0) {
+                isStatic = true; // 'this' is never mapped
+            } else if (lvIndex == size) {
+                isInstance = true; // the last argument of an instance method
+            } else if (lvIndex > size) {
+                return -1;
+            }
+        }
+        return isStatic == isInstance ? -1 : isStatic ? 0 : 1;
+    }
+
     /**
      * Remaps the argument name based on its type
      *
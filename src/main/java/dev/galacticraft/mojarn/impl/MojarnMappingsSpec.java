@@ -25,10 +25,34 @@ package dev.galacticraft.mojarn.impl;
 import net.fabricmc.loom.api.mappings.layered.MappingContext;
 import net.fabricmc.loom.api.mappings.layered.spec.MappingsSpec;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-public record MojarnMappingsSpec(@NotNull MappingsSpec<?> intermediary, @NotNull MappingsSpec<?> mojang, @NotNull MappingsSpec<?> yarn, boolean remapArguments, boolean partialMatch, boolean skipDifferent, boolean matchVariables, boolean copyComments, boolean skipCI) implements MappingsSpec<MojarnMappingsLayer> {
+import java.io.File;
+import java.util.Objects;
+
+public record MojarnMappingsSpec(@NotNull MappingsSpec<?> intermediary, @NotNull MappingsSpec<?> mojang, @NotNull MappingsSpec<?> yarn, boolean remapArguments, boolean partialMatch, boolean skipDifferent, boolean matchVariables, boolean copyComments, boolean inferArguments, boolean skipCI, @Nullable File snapshots) implements MappingsSpec<MojarnMappingsLayer> {
     @Override
     public MojarnMappingsLayer createLayer(MappingContext context) {
-        return new MojarnMappingsLayer(this.intermediary.createLayer(context), this.mojang.createLayer(context), this.yarn.createLayer(context), this.remapArguments, this.partialMatch, this.skipDifferent, this.matchVariables, this.copyComments, this.skipCI);
+        return this.createLayer(context, MojarnPlugin.isCI);
+    }
+
+    MojarnMappingsLayer createLayer(MappingContext context, boolean ci) {
+        return new MojarnMappingsLayer(this.intermediary.createLayer(context), this.mojang.createLayer(context), this.yarn.createLayer(context), this.remapArguments, this.partialMatch, this.skipDifferent, this.matchVariables, this.copyComments, this.inferArguments, this.skipCI, this.snapshots, ci);
+    }
+
+    // loom versions and caches the layered mappings by the spec identity, so whether snapshots are enabled is part of it
+    // (enabling them must regenerate the layer to write a snapshot), but the machine specific directory is not
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MojarnMappingsSpec that && this.intermediary.equals(that.intermediary) && this.mojang.equals(that.mojang) && this.yarn.equals(that.yarn)
+                && this.remapArguments == that.remapArguments && this.partialMatch == that.partialMatch && this.skipDifferent == that.skipDifferent
+                && this.matchVariables == that.matchVariables && this.copyComments == that.copyComments && this.inferArguments == that.inferArguments
+                && this.skipCI == that.skipCI && (this.snapshots != null) == (that.snapshots != null);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.intermediary, this.mojang, this.yarn, this.remapArguments, this.partialMatch, this.skipDifferent, this.matchVariables, this.copyComments, this.inferArguments, this.skipCI, this.snapshots != null);
     }
 }
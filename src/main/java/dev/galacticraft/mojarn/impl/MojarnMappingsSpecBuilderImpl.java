@@ -23,9 +23,14 @@
 package dev.galacticraft.mojarn.impl;
 
 import dev.galacticraft.mojarn.api.MojarnMappingsSpecBuilder;
+import net.fabricmc.loom.api.mappings.layered.spec.FileSpec;
 import net.fabricmc.loom.api.mappings.layered.spec.MappingsSpec;
+import net.fabricmc.loom.configuration.providers.mappings.file.FileMappingsSpecBuilderImpl;
 import net.fabricmc.loom.configuration.providers.mappings.intermediary.IntermediaryMappingsSpec;
 import net.fabricmc.loom.configuration.providers.mappings.mojmap.MojangMappingsSpecBuilderImpl;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
 
 public class MojarnMappingsSpecBuilderImpl implements MojarnMappingsSpecBuilder {
     boolean nameSyntheticMethods = false;
@@ -34,8 +39,10 @@ public class MojarnMappingsSpecBuilderImpl implements MojarnMappingsSpecBuilder
     boolean skipDifferent = false;
     boolean mapVariables = true;
     boolean copyComments = true;
+    boolean inferArguments = false;
     boolean skipCI = true;
     boolean fileIsEnigma = false;
+    @Nullable File snapshotDirectory = null;
 
     @Override
     public MojarnMappingsSpecBuilder nameSyntheticMethods(boolean nameSyntheticMethods) {
@@ -73,12 +80,24 @@ public class MojarnMappingsSpecBuilderImpl implements MojarnMappingsSpecBuilder
         return this;
     }
 
+    @Override
+    public MojarnMappingsSpecBuilder inferArguments(boolean inferArguments) {
+        this.inferArguments = inferArguments;
+        return this;
+    }
+
     @Override
     public MojarnMappingsSpecBuilder skipCI(boolean skipCI) {
         this.skipCI = skipCI;
         return this;
     }
 
+    @Override
+    public MojarnMappingsSpecBuilder snapshotDirectory(@Nullable File snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+        return this;
+    }
+
     @Override
     public MojarnMappingsSpecBuilder fileIsEnigma() {
         this.fileIsEnigma = true;
@@ -86,7 +105,7 @@ public class MojarnMappingsSpecBuilderImpl implements MojarnMappingsSpecBuilder
     }
 
     public MojarnMappingsSpec build(MappingsSpec<?> intermediary, MappingsSpec<?> mojang, MappingsSpec<?> file) {
-        return new MojarnMappingsSpec(intermediary, mojang, file, this.remapArguments, this.partialMatch, this.skipDifferent, this.mapVariables, this.copyComments, this.skipCI);
+        return new MojarnMappingsSpec(intermediary, mojang, file, this.remapArguments, this.partialMatch, this.skipDifferent, this.mapVariables, this.copyComments, this.inferArguments, this.skipCI, this.snapshotDirectory);
     }
 
     public MojarnMappingsSpec build(MappingsSpec<?> intermediary, MappingsSpec<?> file) {
@@ -99,4 +118,15 @@ public class MojarnMappingsSpecBuilderImpl implements MojarnMappingsSpecBuilder
     public MojarnMappingsSpec build(MappingsSpec<?> file) {
         return this.build(new IntermediaryMappingsSpec(), file);
     }
+
+    public MojarnMappingsSpec build(FileSpec file) {
+        return this.build(this.file(file));
+    }
+
+    public MappingsSpec<?> file(FileSpec file) {
+        FileMappingsSpecBuilderImpl builder = FileMappingsSpecBuilderImpl.builder(file);
+        if (this.fileIsEnigma) builder.enigmaMappings();
+
+        return builder.build();
+    }
 }
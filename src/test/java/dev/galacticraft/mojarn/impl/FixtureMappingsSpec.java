@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024-2025 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.mojarn.impl;
+
+import net.fabricmc.loom.api.mappings.layered.MappingContext;
+import net.fabricmc.loom.api.mappings.layered.MappingLayer;
+import net.fabricmc.loom.api.mappings.layered.MappingsNamespace;
+import net.fabricmc.loom.api.mappings.layered.spec.MappingsSpec;
+import net.fabricmc.mappingio.MappingReader;
+import net.fabricmc.mappingio.MappingUtil;
+import net.fabricmc.mappingio.MappingVisitor;
+import net.fabricmc.mappingio.adapter.MappingNsRenamer;
+import net.fabricmc.mappingio.format.MappingFormat;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+/**
+ * A mappings spec backed by in-memory mappings, standing in for the intermediary and official mappings layers that
+ * Loom downloads, and for the scaled file mappings. Fixtures are kept in memory, so that layer generation does not
+ * include file IO.
+ * @param content the mappings
+ * @param format the format of the mappings
+ * @param sourceNamespace the source namespace of the mappings
+ */
+record FixtureMappingsSpec(@NotNull String content, @NotNull MappingFormat format, @NotNull MappingsNamespace sourceNamespace) implements MappingsSpec<FixtureMappingsSpec.Layer> {
+    /**
+     * Creates a spec for a fixture on the test classpath.
+     * @param fixture the name of the fixture in the {@code fixtures} directory
+     * @param format the format of the fixture
+     * @param sourceNamespace the source namespace of the fixture
+     * @return the spec
+     */
+    static FixtureMappingsSpec resource(@NotNull String fixture, @NotNull MappingFormat format, @NotNull MappingsNamespace sourceNamespace) {
+        return new FixtureMappingsSpec(Fixtures.read("fixtures/" + fixture), format, sourceNamespace);
+    }
+
+    @Override
+    public Layer createLayer(MappingContext context) {
+        return new Layer(this.content, this.format, this.sourceNamespace);
+    }
+
+    record Layer(@NotNull String content, @NotNull MappingFormat format, @NotNull MappingsNamespace sourceNamespace) implements MappingLayer {
+        @Override
+        public void visit(MappingVisitor mappingVisitor) throws IOException {
+            if (!this.format.features().hasNamespaces()) {
+                // same as loom, name the namespaces of formats without them
+                mappingVisitor = new MappingNsRenamer(mappingVisitor, Map.of(
+                        MappingUtil.NS_SOURCE_FALLBACK, this.sourceNamespace.toString(),
+                        MappingUtil.NS_TARGET_FALLBACK, MappingsNamespace.NAMED.toString()
+                ));
+            }
+            MappingReader.read(new StringReader(this.content), this.format, mappingVisitor);
+        }
+
+        @Override
+        public MappingsNamespace getSourceNamespace() {
+            return this.sourceNamespace;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2024-2025 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.mojarn.impl;
+
+import net.fabricmc.loom.api.mappings.layered.MappingContext;
+import net.fabricmc.loom.api.mappings.layered.MappingsNamespace;
+import net.fabricmc.loom.api.mappings.layered.spec.FileSpec;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.format.tiny.Tiny2FileWriter;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared fixtures for the mapping layer tests.
+ * Run the {@code updateTestBaselines} task to regenerate the golden files and baselines.
+ */
+final class Fixtures {
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the golden files and baselines should be regenerated instead of checked.
+     */
+    static final boolean UPDATE = Boolean.getBoolean("mojarn.test.update");
+    /**
+     * The test resources source directory, where regenerated files are written.
+     */
+    static final Path RESOURCES = Path.of(System.getProperty("mojarn.test.resources", "src/test/resources"));
+
+    /**
+     * The mapping context of the specs. The fixture file mappings are local files, so it is never used.
+     */
+    static final MappingContext CONTEXT = (MappingContext) Proxy.newProxyInstance(Fixtures.class.getClassLoader(), new Class<?>[]{MappingContext.class}, (proxy, method, args) -> {
+        throw new UnsupportedOperationException("Fixtures have no mapping context: " + method.getName());
+    });
+
+    // the intermediary and official mappings are downloaded by loom for the game version, so they are stood in for
+
+    static final FixtureMappingsSpec INTERMEDIARY = FixtureMappingsSpec.resource("intermediary.tiny", MappingFormat.TINY_2_FILE, MappingsNamespace.OFFICIAL);
+    static final FixtureMappingsSpec MOJANG = FixtureMappingsSpec.resource("mojang.tiny", MappingFormat.TINY_2_FILE, MappingsNamespace.OFFICIAL);
+
+    /**
+     * The spec flags, in the order of the bits of a flag set.
+     */
+    static final String[] FLAGS = {"remapArguments", "partialMatch", "skipDifferent", "mapVariables", "copyComments", "inferArguments"};
+    static final int FLAG_SETS = 1 << FLAGS.length;
+    /**
+     * The flags enabled by default in {@link MojarnMappingsSpecBuilderImpl}.
+     */
+    static final int DEFAULT_FLAGS = flags(new MojarnMappingsSpecBuilderImpl());
+    static final int ALL_FLAGS = FLAG_SETS - 1;
+
+    private Fixtures() {
+    }
+
+    /**
+     * The file mappings variants, read by loom's file mappings layer.
+     * Enigma mappings are a directory, like the yarn sources.
+     */
+    enum Variant {
+        TINY(MappingFormat.TINY_2_FILE, "yarn.tiny"),
+        ENIGMA(MappingFormat.ENIGMA_FILE, "enigma");
+
+        final MappingFormat format;
+        final String fixture;
+
+        Variant(MappingFormat format, String fixture) {
+            this.format = format;
+            this.fixture = fixture;
+        }
+    }
+
+    /**
+     * Creates a spec for the given variant, with CI skipping disabled.
+     * @param variant the file mappings variant
+     * @param flags the flag set, with bits in the order of {@link #FLAGS}
+     * @return the spec
+     */
+    static MojarnMappingsSpec spec(Variant variant, int flags) {
+        return spec(variant, flags, false);
+    }
+
+    static MojarnMappingsSpec spec(Variant variant, int flags, boolean skipCI) {
+        return spec(variant, flags, skipCI, null);
+    }
+
+    static MojarnMappingsSpec spec(Variant variant, int flags, boolean skipCI, @Nullable File snapshots) {
+        return spec(INTERMEDIARY, MOJANG, variant, flags, skipCI, snapshots);
+    }
+
+    static MojarnMappingsSpec spec(FixtureMappingsSpec intermediary, FixtureMappingsSpec mojang, Variant variant, int flags, boolean skipCI, @Nullable File snapshots) {
+        MojarnMappingsSpecBuilderImpl builder = builder(flags, skipCI, snapshots);
+        if (variant.format == MappingFormat.ENIGMA_FILE) builder.fileIsEnigma();
+
+        return builder.build(intermediary, mojang, builder.file(FileSpec.create(resource("fixtures/" + variant.fixture).toFile())));
+    }
+
+    static MojarnMappingsSpec spec(FixtureMappingsSpec intermediary, FixtureMappingsSpec mojang, FixtureMappingsSpec file, int flags, boolean skipCI, @Nullable File snapshots) {
+        return builder(flags, skipCI, snapshots).build(intermediary, mojang, file);
+    }
+
+    private static MojarnMappingsSpecBuilderImpl builder(int flags, boolean skipCI, @Nullable File snapshots) {
+        MojarnMappingsSpecBuilderImpl builder = new MojarnMappingsSpecBuilderImpl();
+        builder.remapArguments(has(flags, 0)).partialMatch(has(flags, 1)).skipDifferent(has(flags, 2)).mapVariables(has(flags, 3))
+                .copyComments(has(flags, 4)).inferArguments(has(flags, 5)).skipCI(skipCI).snapshotDirectory(snapshots);
+        return builder;
+    }
+
+    /**
+     * Names the flag set after the enabled flags, e.g. {@code remapArguments+copyComments}.
+     * @param flags the flag set
+     * @return the name of the flag set
+     */
+    static String name(int flags) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < FLAGS.length; i++) {
+            if (has(flags, i)) {
+                if (!builder.isEmpty()) builder.append('+');
+                builder.append(FLAGS[i]);
+            }
+        }
+        return builder.isEmpty() ? "none" : builder.toString();
+    }
+
+    /**
+     * Generates the mappings of the given spec, in the environment of the build.
+     * Only specs that skip CI builds depend on the environment.
+     * @param spec the spec to generate
+     * @return the generated mappings tree
+     * @throws IOException if the layer fails to generate
+     */
+    static MemoryMappingTree generate(MojarnMappingsSpec spec) throws IOException {
+        MemoryMappingTree tree = new MemoryMappingTree();
+        spec.createLayer(CONTEXT).visit(tree);
+        return tree;
+    }
+
+    static MemoryMappingTree generate(MojarnMappingsSpec spec, boolean ci) throws IOException {
+        MemoryMappingTree tree = new MemoryMappingTree();
+        spec.createLayer(CONTEXT, ci).visit(tree);
+        return tree;
+    }
+
+    /**
+     * Writes the given tree in the tiny v2 format.
+     * @param tree the tree to write
+     * @return the written mappings
+     * @throws IOException if the tree fails to be written
+     */
+    static String write(MemoryMappingTree tree) throws IOException {
+        StringWriter writer = new StringWriter();
+        tree.accept(new Tiny2FileWriter(writer, false));
+        return writer.toString();
+    }
+
+    /**
+     * Reads the given resource from the test classpath.
+     * @param path the path of the resource
+     * @return the contents of the resource
+     */
+    static @NotNull String read(String path) {
+        String content = readOptional(path);
+        if (content == null) {
+            throw new IllegalStateException("Missing test resource '" + path + "', run the updateTestBaselines task to generate it.");
+        }
+        return content;
+    }
+
+    static @Nullable String readOptional(String path) {
+        return CACHE.computeIfAbsent(path, p -> {
+            try (InputStream stream = Fixtures.class.getResourceAsStream('/' + p)) {
+                return stream == null ? null : new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Locates the given resource on the test classpath.
+     * @param path the path of the resource
+     * @return the file of the resource
+     */
+    static Path resource(String path) {
+        URL url = Fixtures.class.getResource('/' + path);
+        if (url == null) {
+            throw new IllegalStateException("Missing test resource '" + path + "'");
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the given resource to the test resources source directory.
+     * @param path the path of the resource
+     * @param content the contents of the resource
+     * @throws IOException if the file fails to be written
+     */
+    static void update(String path, String content) throws IOException {
+        Path file = RESOURCES.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        CACHE.put(path, content);
+    }
+
+    private static int flags(MojarnMappingsSpecBuilderImpl builder) {
+        boolean[] values = {builder.remapArguments, builder.partialMatch, builder.skipDifferent, builder.mapVariables, builder.copyComments, builder.inferArguments};
+        int flags = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i]) flags |= 1 << i;
+        }
+        return flags;
+    }
+
+    private static boolean has(int flags, int flag) {
+        return (flags & (1 << flag)) != 0;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024-2025 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.mojarn.impl;
+
+import com.sun.management.ThreadMXBean;
+import dev.galacticraft.mojarn.impl.Fixtures.Variant;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that generating the scaled fixtures, and serving their snapshots in CI, stays within the recorded allocation baselines.
+ * Wall time depends on the machine, so it is only checked against the baselines if the {@code test.time-margin}
+ * gradle property is set. The allowed allocation margin is set with the {@code test.allocation-margin} gradle property.
+ */
+class MojarnMappingsLayerPerformanceTest {
+    private static final String BASELINES = "baselines.properties";
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    private static final @Nullable String TIME_MARGIN = System.getProperty("mojarn.test.timeMargin");
+    private static final double ALLOCATION_MARGIN = Double.parseDouble(System.getProperty("mojarn.test.allocationMargin", "0.25"));
+
+    @ParameterizedTest
+    @EnumSource(Variant.class)
+    void withinBaseline(Variant variant) throws IOException {
+        MojarnMappingsSpec[] specs = {ScaledFixtures.spec(variant, Fixtures.DEFAULT_FLAGS), ScaledFixtures.spec(variant, Fixtures.ALL_FLAGS)};
+
+        checkBaseline(variant.name().toLowerCase(Locale.ROOT), () -> generate(specs));
+    }
+
+    /**
+     * Checks the cost of a CI build that is served a snapshot, which includes digesting the input mappings.
+     */
+    @ParameterizedTest
+    @EnumSource(Variant.class)
+    void snapshotWithinBaseline(Variant variant, @TempDir File snapshots) throws IOException {
+        MojarnMappingsSpec spec = ScaledFixtures.spec(variant, Fixtures.DEFAULT_FLAGS, true, snapshots);
+        String generated = Fixtures.write(Fixtures.generate(spec, false));
+        assertEquals(generated, Fixtures.write(Fixtures.generate(spec, true)), "Snapshot was not served");
+
+        checkBaseline(variant.name().toLowerCase(Locale.ROOT) + ".snapshot", () -> Fixtures.generate(spec, true));
+    }
+
+    private static void checkBaseline(String key, Round round) throws IOException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+
+        long[] times = new long[ROUNDS];
+        long[] allocations = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            round.run();
+            times[i] = (System.nanoTime() - start) / 1000;
+            allocations[i] = threads.getCurrentThreadAllocatedBytes() - allocated;
+        }
+        long time = median(times);
+        long allocation = median(allocations);
+
+        Properties baselines = new Properties();
+        String content = Fixtures.readOptional(BASELINES);
+        if (content != null) {
+            baselines.load(new StringReader(content));
+        }
+
+        if (Fixtures.UPDATE) {
+            baselines.setProperty(key + ".time", Long.toString(time));
+            baselines.setProperty(key + ".allocated", Long.toString(allocation));
+            StringBuilder builder = new StringBuilder("""
+                    # Median time (us) and allocated bytes to generate the scaled fixtures (and serve their snapshots), see MojarnMappingsLayerPerformanceTest
+                    # The times are only valid on the machine that recorded them. Run the updateTestBaselines task on
+                    # your machine before checking them with -Ptest.time-margin.
+                    """);
+            for (String name : new TreeSet<>(baselines.stringPropertyNames())) {
+                builder.append(name).append('=').append(baselines.getProperty(name)).append('\n');
+            }
+            Fixtures.update(BASELINES, builder.toString());
+            return;
+        }
+
+        String baselineAllocation = baselines.getProperty(key + ".allocated");
+        assertNotNull(baselineAllocation, "Missing " + key + " baselines, run the updateTestBaselines task to generate them.");
+        long maxAllocation = (long) (Long.parseLong(baselineAllocation) * (1 + ALLOCATION_MARGIN));
+        assertTrue(allocation <= maxAllocation, "Generation allocated " + allocation + " bytes, exceeding the baseline of " + baselineAllocation + " bytes by more than " + ALLOCATION_MARGIN * 100 + "%");
+
+        if (TIME_MARGIN != null) {
+            double margin = Double.parseDouble(TIME_MARGIN);
+            String baselineTime = baselines.getProperty(key + ".time");
+            assertNotNull(baselineTime, "Missing " + key + " baselines, run the updateTestBaselines task to generate them.");
+            long maxTime = (long) (Long.parseLong(baselineTime) * (1 + margin));
+            assertTrue(time <= maxTime, "Generation took " + time + "us, exceeding the baseline of " + baselineTime + "us by more than " + margin * 100 + "%");
+        }
+    }
+
+    private static void generate(MojarnMappingsSpec[] specs) throws IOException {
+        for (MojarnMappingsSpec spec : specs) {
+            Fixtures.generate(spec);
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private interface Round {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2024-2025 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.mojarn.impl;
+
+import dev.galacticraft.mojarn.impl.Fixtures.Variant;
+import net.fabricmc.loom.api.mappings.layered.MappingsNamespace;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Checks the generated mappings against the golden files, for every combination of spec flags.
+ */
+class MojarnMappingsLayerTest {
+    static Stream<Arguments> flagSets() {
+        return Arrays.stream(Variant.values()).flatMap(variant -> IntStream.range(0, Fixtures.FLAG_SETS)
+                .mapToObj(flags -> Arguments.of(variant, Fixtures.name(flags), flags)));
+    }
+
+    @ParameterizedTest(name = "{0} [{1}]")
+    @MethodSource("flagSets")
+    void matchesGolden(Variant variant, String name, int flags) throws IOException {
+        String path = golden(variant, flags);
+        String actual = Fixtures.write(Fixtures.generate(Fixtures.spec(variant, flags)));
+
+        if (Fixtures.UPDATE) {
+            Fixtures.update(path, actual);
+        } else {
+            assertEquals(Fixtures.read(path), actual, "Generated mappings differ from " + path);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Variant.class)
+    void skipsOnlyInCI(Variant variant) throws IOException {
+        assumeFalse(Fixtures.UPDATE, "Golden files are being regenerated");
+
+        MojarnMappingsSpec spec = Fixtures.spec(variant, Fixtures.DEFAULT_FLAGS, true);
+        assertEquals(mojang(), Fixtures.write(Fixtures.generate(spec, true)));
+        assertEquals(Fixtures.read(golden(variant, Fixtures.DEFAULT_FLAGS)), Fixtures.write(Fixtures.generate(spec, false)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Variant.class)
+    void servesSnapshotInCI(Variant variant, @TempDir File snapshots) throws IOException {
+        assumeFalse(Fixtures.UPDATE, "Golden files are being regenerated");
+
+        // generating the full layer writes the snapshot
+        MojarnMappingsSpec spec = Fixtures.spec(variant, Fixtures.DEFAULT_FLAGS, true, snapshots);
+        assertEquals(Fixtures.read(golden(variant, Fixtures.DEFAULT_FLAGS)), Fixtures.write(Fixtures.generate(spec, false)));
+        assertEquals(1, snapshots.list().length, "Snapshot was not written");
+
+        // CI builds never generate the layer, so the full mappings can only come from the snapshot
+        assertEquals(Fixtures.read(golden(variant, Fixtures.DEFAULT_FLAGS)), Fixtures.write(Fixtures.generate(spec, true)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Variant.class)
+    void missesSnapshotInCI(Variant variant, @TempDir File snapshots) throws IOException {
+        assumeFalse(Fixtures.UPDATE, "Golden files are being regenerated");
+
+        // a snapshot of other options must not be used
+        Fixtures.generate(Fixtures.spec(variant, Fixtures.ALL_FLAGS, true, snapshots), false);
+
+        assertEquals(mojang(), Fixtures.write(Fixtures.generate(Fixtures.spec(variant, Fixtures.DEFAULT_FLAGS, true, snapshots), true)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Variant.class)
+    void ignoresCorruptSnapshot(Variant variant, @TempDir File snapshots) throws IOException {
+        assumeFalse(Fixtures.UPDATE, "Golden files are being regenerated");
+
+        MojarnMappingsSpec spec = Fixtures.spec(variant, Fixtures.DEFAULT_FLAGS, true, snapshots);
+        Fixtures.generate(spec, false);
+        Path snapshot = snapshots.listFiles()[0].toPath();
+
+        // not gzip compressed
+        Files.writeString(snapshot, "not a snapshot");
+        assertEquals(mojang(), Fixtures.write(Fixtures.generate(spec, true)));
+
+        // valid gzip, but not a tiny file
+        try (OutputStream stream = new GZIPOutputStream(Files.newOutputStream(snapshot))) {
+            stream.write("not a snapshot".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(mojang(), Fixtures.write(Fixtures.generate(spec, true)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Variant.class)
+    void prunesOutdatedSnapshots(Variant variant, @TempDir File snapshots) throws IOException {
+        assumeFalse(Fixtures.UPDATE, "Golden files are being regenerated");
+
+        // a snapshot of the same options for other input mappings (here a previous game version) is outdated,
+        // snapshots of other options are kept
+        FixtureMappingsSpec previous = new FixtureMappingsSpec(Fixtures.MOJANG.content().replace("world/level/Level", "world/level/OldLevel"), MappingFormat.TINY_2_FILE, MappingsNamespace.OFFICIAL);
+        Fixtures.generate(Fixtures.spec(Fixtures.INTERMEDIARY, previous, variant, Fixtures.DEFAULT_FLAGS, true, snapshots), false);
+        Fixtures.generate(Fixtures.spec(variant, Fixtures.ALL_FLAGS, true, snapshots), false);
+        String[] outdated = snapshots.list();
+
+        MojarnMappingsSpec spec = Fixtures.spec(variant, Fixtures.DEFAULT_FLAGS, true, snapshots);
+        Fixtures.generate(spec, false);
+        String[] current = snapshots.list();
+
+        assertEquals(2, current.length);
+        assertEquals(1, Arrays.stream(current).filter(name -> !Arrays.asList(outdated).contains(name)).count(), "Outdated snapshot was not deleted");
+        assertEquals(Fixtures.read(golden(variant, Fixtures.DEFAULT_FLAGS)), Fixtures.write(Fixtures.generate(spec, true)));
+    }
+
+    @Test
+    void snapshotDirectoryIsNotPartOfIdentity(@TempDir File snapshots, @TempDir File other) {
+        MojarnMappingsSpec withSnapshots = Fixtures.spec(Variant.TINY, Fixtures.DEFAULT_FLAGS, true, snapshots);
+        MojarnMappingsSpec withOther = Fixtures.spec(Variant.TINY, Fixtures.DEFAULT_FLAGS, true, other);
+
+        assertEquals(withSnapshots, withOther);
+        assertEquals(withSnapshots.hashCode(), withOther.hashCode());
+    }
+
+    @Test
+    void snapshotsArePartOfIdentity(@TempDir File snapshots) {
+        MojarnMappingsSpec spec = Fixtures.spec(Variant.TINY, Fixtures.DEFAULT_FLAGS, true, null);
+        MojarnMappingsSpec withSnapshots = Fixtures.spec(Variant.TINY, Fixtures.DEFAULT_FLAGS, true, snapshots);
+
+        // enabling snapshots must not reuse the layered mappings cached without them, or no snapshot is written
+        assertNotEquals(spec, withSnapshots);
+        assertNotEquals(spec.hashCode(), withSnapshots.hashCode());
+    }
+
+    private static String mojang() throws IOException {
+        MemoryMappingTree mojang = new MemoryMappingTree();
+        Fixtures.MOJANG.createLayer(Fixtures.CONTEXT).visit(mojang);
+        return Fixtures.write(mojang);
+    }
+
+    private static String golden(Variant variant, int flags) {
+        return "golden/" + variant.name().toLowerCase(Locale.ROOT) + "/" + Fixtures.name(flags) + ".tiny";
+    }
+}
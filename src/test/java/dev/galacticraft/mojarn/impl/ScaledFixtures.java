@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2024-2025 Team Galacticraft
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.galacticraft.mojarn.impl;
+
+import dev.galacticraft.mojarn.impl.Fixtures.Variant;
+import net.fabricmc.loom.api.mappings.layered.MappingsNamespace;
+import net.fabricmc.mappingio.MappedElementKind;
+import net.fabricmc.mappingio.MappingWriter;
+import net.fabricmc.mappingio.format.MappingFormat;
+import net.fabricmc.mappingio.tree.MemoryMappingTree;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generated, game-sized fixtures for the performance tests.
+ * Small fixtures are dominated by JIT and GC noise, and cannot show super-linear behaviour in the join.
+ */
+final class ScaledFixtures {
+    private static final int CLASSES = 2000;
+    private static final int METHODS = 8;
+
+    static final FixtureMappingsSpec INTERMEDIARY;
+    static final FixtureMappingsSpec MOJANG;
+    private static final Map<Variant, FixtureMappingsSpec> FILES = new EnumMap<>(Variant.class);
+
+    static {
+        try {
+            MemoryMappingTree intermediary = new MemoryMappingTree();
+            MemoryMappingTree mojang = new MemoryMappingTree();
+            MemoryMappingTree yarn = new MemoryMappingTree();
+            intermediary.visitNamespaces(MappingsNamespace.OFFICIAL.toString(), List.of(MappingsNamespace.INTERMEDIARY.toString()));
+            mojang.visitNamespaces(MappingsNamespace.OFFICIAL.toString(), List.of(MappingsNamespace.NAMED.toString()));
+            yarn.visitNamespaces(MappingsNamespace.INTERMEDIARY.toString(), List.of(MappingsNamespace.NAMED.toString()));
+
+            for (int i = 0; i < CLASSES; i++) {
+                generateClass(i, intermediary, mojang, yarn);
+            }
+
+            INTERMEDIARY = new FixtureMappingsSpec(write(intermediary, MappingFormat.TINY_2_FILE), MappingFormat.TINY_2_FILE, MappingsNamespace.OFFICIAL);
+            MOJANG = new FixtureMappingsSpec(write(mojang, MappingFormat.TINY_2_FILE), MappingFormat.TINY_2_FILE, MappingsNamespace.OFFICIAL);
+            for (Variant variant : Variant.values()) {
+                FILES.put(variant, new FixtureMappingsSpec(write(yarn, variant.format), variant.format, MappingsNamespace.INTERMEDIARY));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ScaledFixtures() {
+    }
+
+    static MojarnMappingsSpec spec(Variant variant, int flags) {
+        return spec(variant, flags, false, null);
+    }
+
+    static MojarnMappingsSpec spec(Variant variant, int flags, boolean skipCI, @Nullable File snapshots) {
+        return Fixtures.spec(INTERMEDIARY, MOJANG, FILES.get(variant), flags, skipCI, snapshots);
+    }
+
+    /**
+     * Generates a class with a field, a constructor and {@link #METHODS} methods referencing other classes.
+     * Half of the classes have a different simple name in yarn, and the methods cover exact, partial,
+     * suffixed and missing argument names, static and instance methods, and array arguments.
+     */
+    private static void generateClass(int i, MemoryMappingTree intermediary, MemoryMappingTree mojang, MemoryMappingTree yarn) throws IOException {
+        String official = "c" + i;
+        intermediary.visitClass(official);
+        intermediary.visitDstName(MappedElementKind.CLASS, 0, "net/minecraft/class_" + i);
+        mojang.visitClass(official);
+        mojang.visitDstName(MappedElementKind.CLASS, 0, "net/minecraft/m" + (i % 16) + "/" + mojangName(i));
+        yarn.visitClass("net/minecraft/class_" + i);
+        yarn.visitDstName(MappedElementKind.CLASS, 0, "net/minecraft/y" + (i % 16) + "/" + yarnName(i));
+        if (i % 2 == 0) {
+            yarn.visitComment(MappedElementKind.CLASS, "Class " + yarnName(i) + ".");
+        }
+
+        String fieldDesc = "L" + official(i + 1) + ";";
+        intermediary.visitField("a", fieldDesc);
+        intermediary.visitDstName(MappedElementKind.FIELD, 0, "field_" + i);
+        mojang.visitField("a", fieldDesc);
+        mojang.visitDstName(MappedElementKind.FIELD, 0, "value");
+        yarn.visitField("field_" + i, "L" + intermediary(i + 1) + ";");
+        yarn.visitDstName(MappedElementKind.FIELD, 0, "VALUE");
+        yarn.visitComment(MappedElementKind.FIELD, "The value.");
+
+        mojang.visitMethod("<init>", "(" + fieldDesc + ")V");
+        mojang.visitDstName(MappedElementKind.METHOD, 0, "<init>");
+        yarn.visitMethod("<init>", "(L" + intermediary(i + 1) + ";)V");
+        yarn.visitDstName(MappedElementKind.METHOD, 0, "<init>");
+
+        for (int j = 0; j < METHODS; j++) {
+            int[] types = {(i + j + 1) % CLASSES, (i * 7 + j * 3) % CLASSES, (i + j * 13) % CLASSES};
+            String officialDesc = "(L" + official(types[0]) + ";L" + official(types[1]) + ";I[L" + official(types[2]) + ";)V";
+            String intermediaryDesc = "(L" + intermediary(types[0]) + ";L" + intermediary(types[1]) + ";I[L" + intermediary(types[2]) + ";)V";
+            String name = "method_" + (i * METHODS + j);
+
+            intermediary.visitMethod("m" + j, officialDesc);
+            intermediary.visitDstName(MappedElementKind.METHOD, 0, name);
+            mojang.visitMethod("m" + j, officialDesc);
+            mojang.visitDstName(MappedElementKind.METHOD, 0, "mojang" + j);
+            yarn.visitMethod(name, intermediaryDesc);
+            yarn.visitDstName(MappedElementKind.METHOD, 0, "yarn" + j);
+            if (j % 2 == 0) {
+                yarn.visitComment(MappedElementKind.METHOD, "Method " + j + ".");
+            }
+
+            // every third method is static, every fourth has no named arguments
+            int base = j % 3 == 0 ? 0 : 1;
+            if (j % 4 == 0) continue;
+            String[] names = {argumentName(types[0], j), argumentName(types[1], j), "count", argumentName(types[2], j) + "s"};
+            for (int slot = 0; slot < names.length; slot++) {
+                // only name the first and last argument of some methods
+                if (j % 4 == 1 && slot != 0 && slot != names.length - 1) continue;
+                yarn.visitMethodArg(-1, base + slot, null);
+                yarn.visitDstName(MappedElementKind.METHOD_ARG, 0, names[slot]);
+            }
+            if (j % 2 == 1) {
+                yarn.visitMethodVar(-1, base + names.length, 4, -1, null);
+                yarn.visitDstName(MappedElementKind.METHOD_VAR, 0, "result");
+            }
+        }
+    }
+
+    private static String argumentName(int type, int method) {
+        String name = switch (method % 5) {
+            case 2 -> suffix(type); // partial match
+            case 4 -> "other";
+            default -> yarnName(type);
+        };
+        name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        return method % 7 == 3 ? name + "2" : name;
+    }
+
+    private static String official(int i) {
+        return "c" + (i % CLASSES);
+    }
+
+    private static String intermediary(int i) {
+        return "net/minecraft/class_" + (i % CLASSES);
+    }
+
+    private static String mojangName(int i) {
+        return "Type" + suffix(i);
+    }
+
+    private static String yarnName(int i) {
+        return (i % 2 == 0 ? "Type" : "Thing") + suffix(i);
+    }
+
+    /**
+     * Encodes the number as a capitalized word, as numeric suffixes are stripped from argument names.
+     */
+    private static String suffix(int i) {
+        StringBuilder builder = new StringBuilder();
+        do {
+            builder.append((char) ('a' + i % 26));
+            i /= 26;
+        } while (i > 0);
+        builder.setCharAt(0, Character.toUpperCase(builder.charAt(0)));
+        return builder.toString();
+    }
+
+    private static String write(MemoryMappingTree tree, MappingFormat format) throws IOException {
+        StringWriter writer = new StringWriter();
+        tree.accept(MappingWriter.create(writer, format));
+        return writer.toString();
+    }
+}